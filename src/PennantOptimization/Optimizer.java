@@ -3,6 +3,8 @@ package PennantOptimization;
 import java.util.PriorityQueue;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Arrays;
 
 public class Optimizer {
     // Attributes
@@ -66,6 +68,24 @@ public class Optimizer {
             for (PennantChain pennantChain : tempBestPennantChains) {
                 System.out.print("\n" + pennantChain.getInfos());
             }
+            System.out.print("""
+                    \n##########################
+                    Large Neighbourhood Search
+                    ##########################
+                    """);
+            generateBestChainsOfPennants(pennantPile.copy(), "LargeNeighbourhoodSearch");
+            for (PennantChain pennantChain : tempBestPennantChains) {
+                System.out.print("\n" + pennantChain.getInfos());
+            }
+            System.out.print("""
+                    \n#################
+                    Best-First Search
+                    #################
+                    """);
+            generateBestChainsOfPennants(pennantPile.copy(), "BestFirstSearch");
+            for (PennantChain pennantChain : tempBestPennantChains) {
+                System.out.print("\n" + pennantChain.getInfos());
+            }
         }
         System.out.print("\nThe program is terminated.\n");
     }
@@ -87,8 +107,13 @@ public class Optimizer {
             case "BranchAndBound" -> {
                 tempBestPennantChains.add(new PennantChain(pennantPile.getTotalAmountOfPennants(), true));
                 recAddPennant(new PennantChain(pennantPile.getTotalAmountOfPennants(), false), pennantPile);}
+            case "BestFirstSearch" -> {
+                tempBestPennantChains.add(new PennantChain(pennantPile.getTotalAmountOfPennants(), true));
+                bestFirstSearch(pennantPile, 1_000_000, 1_000);}
             case "AdaptiveWalk" ->
                     adaptiveWalk(pennantPile, 100);
+            case "LargeNeighbourhoodSearch" ->
+                    largeNeighbourhoodSearch(pennantPile, 100, 8);
             default -> throw new IllegalArgumentException("No mode selected");
         }
     }
@@ -119,14 +144,157 @@ public class Optimizer {
         }
         for (PennantChain recPennantChain : queueOfRecPennantChains) {
             String lastPennantColor = recPennantChain.getChain()[recPennantChain.getAmountOfPennantsOnChain()-1].getColor();
-            PennantPile recPennantPile = pennantPile.copy();
-            recPennantPile.put(lastPennantColor, recPennantPile.get(lastPennantColor) - 1);
-            if (recPennantPile.get(lastPennantColor) <= 0) {
-                recPennantPile.remove(lastPennantColor);
-            }
+            PennantPile recPennantPile = pennantPile.copyWithoutPennant(lastPennantColor);
             recAddPennant(recPennantChain, recPennantPile);
         }
     }
+    // - - Best-First Search
+    // - - - General: Always the most promising partial chain of the whole frontier is expanded. If the frontier
+    // would exceed its maximal size, the search degrades into a beam search on the best nodes of the frontier.
+    private void bestFirstSearch(PennantPile pennantPile, int maximalFrontierSize, int beamWidth) {
+        if (maximalFrontierSize <= 0) {
+            throw new IllegalArgumentException("Only positive frontier sizes");
+        }
+        if (beamWidth <= 0 || beamWidth > maximalFrontierSize) {
+            throw new IllegalArgumentException("Only positive beam widths up to the frontier size");
+        }
+        if (pennantPile.getTotalAmountOfPennants() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many pennants for the search tree");
+        }
+        String[] colors = pennantPile.keySet().toArray(new String[0]);
+        int[] amountsOfPennants = new int[colors.length];
+        for (int i = 0; i < colors.length; i++) {
+            amountsOfPennants[i] = pennantPile.get(colors[i]);
+        }
+        int length = pennantPile.getTotalAmountOfPennants();
+
+        PriorityQueue<PennantChainNode> frontier = new PriorityQueue<>(Collections.reverseOrder());
+        frontier.add(new PennantChainNode(length));
+        while (!frontier.isEmpty()) {
+            PennantChainNode node = frontier.poll();
+            // Cut: Since the frontier is ordered, all remaining nodes are worse than the best completed chain(s) too
+            if (node.compareBoundTo(tempBestPennantChains.get(0)) < 0) {
+                return;
+            }
+            // Tree leaf: No more pennants on the pile
+            if (node.getDepth() == length) {
+                addCompletedNode(node, colors);
+                continue;
+            }
+            List<PennantChainNode> childNodes = expandNode(node, colors, amountsOfPennants, length);
+            childNodes.removeIf(childNode -> childNode.compareBoundTo(tempBestPennantChains.get(0)) < 0);
+            if (frontier.size() + childNodes.size() > maximalFrontierSize) {
+                PriorityQueue<PennantChainNode> beam = new PriorityQueue<>();
+                for (PennantChainNode childNode : childNodes) {
+                    offerToBeam(beam, childNode, beamWidth);
+                }
+                while (!frontier.isEmpty()) {
+                    offerToBeam(beam, frontier.poll(), beamWidth);
+                }
+                beamSearch(beam, colors, amountsOfPennants, length, beamWidth);
+                return;
+            }
+            frontier.addAll(childNodes);
+        }
+    }
+    // - - - Beam Search: All nodes of the beam are expanded at once, only the best children form the next beam
+    private void beamSearch(PriorityQueue<PennantChainNode> beam, String[] colors, int[] amountsOfPennants, int length,
+                            int beamWidth) {
+        while (!beam.isEmpty()) {
+            PriorityQueue<PennantChainNode> nextBeam = new PriorityQueue<>();
+            for (PennantChainNode node : beam) {
+                if (node.compareBoundTo(tempBestPennantChains.get(0)) < 0) {
+                    continue;
+                }
+                if (node.getDepth() == length) {
+                    addCompletedNode(node, colors);
+                    continue;
+                }
+                for (PennantChainNode childNode : expandNode(node, colors, amountsOfPennants, length)) {
+                    if (childNode.compareBoundTo(tempBestPennantChains.get(0)) >= 0) {
+                        offerToBeam(nextBeam, childNode, beamWidth);
+                    }
+                }
+            }
+            beam = nextBeam;
+        }
+    }
+    // - - - Beam: The head of the beam is its worst node, which is dropped as soon as the beam is too wide
+    private void offerToBeam(PriorityQueue<PennantChainNode> beam, PennantChainNode node, int beamWidth) {
+        beam.add(node);
+        if (beam.size() > beamWidth) {
+            beam.poll();
+        }
+    }
+    // - - - Expansion: For every color left on the pile, a child node with a pennant of that color is created.
+    // Its bound distance assumes that the remaining pennants of each color are spread evenly over the remaining
+    // positions of the chain.
+    private List<PennantChainNode> expandNode(PennantChainNode node, String[] colors, int[] amountsOfPennants,
+                                              int length) {
+        // Walk up the shared prefix once: last position and remaining amount of each color
+        int[] lastPositions = new int[colors.length];
+        Arrays.fill(lastPositions, -1);
+        int[] remainingAmountsOfPennants = amountsOfPennants.clone();
+        for (PennantChainNode prefixNode = node; prefixNode.getParent() != null; prefixNode = prefixNode.getParent()) {
+            if (lastPositions[prefixNode.getColorIndex()] == -1) {
+                lastPositions[prefixNode.getColorIndex()] = prefixNode.getDepth() - 1;
+            }
+            remainingAmountsOfPennants[prefixNode.getColorIndex()]--;
+        }
+
+        List<PennantChainNode> childNodes = new ArrayList<>();
+        for (int colorIndex = 0; colorIndex < colors.length; colorIndex++) {
+            if (remainingAmountsOfPennants[colorIndex] == 0) {
+                continue;
+            }
+            // Quality, as in PennantChain.addPennant: no same color neighbour results in the hypothetical best distance
+            int distance = lastPositions[colorIndex] == -1 ? length - 1 : node.getDepth() - lastPositions[colorIndex] - 1;
+            int minimalDistance = node.getMinimalDistance();
+            int frequency = node.getFrequency();
+            if (distance < minimalDistance) {
+                minimalDistance = distance;
+                frequency = 1;
+            } else if (distance == minimalDistance) {
+                frequency++;
+            }
+            // Bound
+            int lastPosition = lastPositions[colorIndex];
+            lastPositions[colorIndex] = node.getDepth();
+            remainingAmountsOfPennants[colorIndex]--;
+            int boundDistance = minimalDistance;
+            for (int i = 0; i < colors.length; i++) {
+                if (remainingAmountsOfPennants[i] == 0) {
+                    continue;
+                }
+                if (lastPositions[i] != -1) {
+                    // Remaining pennants after the last one: lastPosition + remaining*(distance+1) <= length-1
+                    boundDistance = Math.min(boundDistance,
+                            (length - 1 - lastPositions[i]) / remainingAmountsOfPennants[i] - 1);
+                }
+                if (remainingAmountsOfPennants[i] > 1) {
+                    // Remaining pennants among the free positions: depth + (remaining-1)*(distance+1) <= length-1
+                    boundDistance = Math.min(boundDistance,
+                            (length - 1 - (node.getDepth() + 1)) / (remainingAmountsOfPennants[i] - 1) - 1);
+                }
+            }
+            lastPositions[colorIndex] = lastPosition;
+            remainingAmountsOfPennants[colorIndex]++;
+            childNodes.add(new PennantChainNode(node, colorIndex, minimalDistance, frequency, boundDistance));
+        }
+        return childNodes;
+    }
+    // - - - Completion: The chain of a leaf node is built and compared to the best completed chain(s) so far
+    private void addCompletedNode(PennantChainNode node, String[] colors) {
+        PennantChain pennantChain = new PennantChain(node.getDepth(), false);
+        for (int colorIndex : node.getColorIndices()) {
+            pennantChain.addPennant(new Pennant(colors[colorIndex]));
+        }
+        if (pennantChain.compareTo(tempBestPennantChains.get(0)) > 0) {
+            tempBestPennantChains = new ArrayList<>() {{add(pennantChain);}};
+        } else if (pennantChain.compareTo(tempBestPennantChains.get(0)) == 0) {
+            tempBestPennantChains.add(pennantChain);
+        }
+    }
     // - - Random
     // - - - General
     private PennantChain generateRandomChain(PennantPile pennantPile) {
@@ -164,4 +332,167 @@ public class Optimizer {
         }
         tempBestPennantChains.add(pennantChain);
     }
+    // - - Large Neighbourhood Search
+    // - - - General: Destroying and repairing sets of positions on the chain that contain minimal distance pairs
+    private void largeNeighbourhoodSearch(PennantPile pennantPile, int limitForPotentialImprovementIterations,
+                                          int maximalAmountOfDestroyedPennants) {
+        if (limitForPotentialImprovementIterations <= 0) {
+            throw new IllegalArgumentException("Only positive limits for potential improvement iterations");
+        }
+        if (maximalAmountOfDestroyedPennants <= 1) {
+            throw new IllegalArgumentException("Only destroying at least two pennants");
+        }
+        maximalAmountOfDestroyedPennants = Math.min(maximalAmountOfDestroyedPennants, pennantPile.getTotalAmountOfPennants());
+        int minimalAmountOfDestroyedPennants = Math.min(3, maximalAmountOfDestroyedPennants);
+        int amountOfDestroyedPennants = minimalAmountOfDestroyedPennants;
+        PennantChain pennantChain = generateRandomChain(pennantPile.copy());
+        int count = 0;
+        while (count < limitForPotentialImprovementIterations) {
+            List<int[]> setsOfDestroyedPositions = selectDestroyedPositions(pennantChain, amountOfDestroyedPennants);
+            // No minimal distance pairs: every pennant has its own color, the chain cannot be improved
+            if (setsOfDestroyedPositions.isEmpty()) {
+                break;
+            }
+            // Repair: the sets do not overlap, hence they are re-optimized independently and in parallel
+            PennantChain basePennantChain = pennantChain;
+            List<PennantChain> repairedPennantChains = setsOfDestroyedPositions.parallelStream()
+                    .map(destroyedPositions -> repairDestroyedPositions(basePennantChain, destroyedPositions))
+                    .toList();
+            // Merge: each repaired set is spliced into the chain as long as the chain does not get worse. Sets only
+            // keep the quality of the chain on their own, but can still interfere with each other through shared colors.
+            PennantChain newPennantChain = pennantChain;
+            for (int k = 0; k < setsOfDestroyedPositions.size(); k++) {
+                if (repairedPennantChains.get(k) == pennantChain) {
+                    continue;
+                }
+                PennantChain splicedPennantChain = spliceDestroyedPositions(
+                        newPennantChain, repairedPennantChains.get(k), setsOfDestroyedPositions.get(k));
+                if (splicedPennantChain.compareTo(newPennantChain) >= 0) {
+                    newPennantChain = splicedPennantChain;
+                }
+            }
+            // Adaptive amount of destroyed pennants: few as long as they improve the chain, more otherwise.
+            // A different chain of equal quality is taken over as well, so that the search can move across chains
+            // of the same quality, but it counts as a failed round, so that the search still ends.
+            if (newPennantChain.compareTo(pennantChain) > 0) {
+                amountOfDestroyedPennants = minimalAmountOfDestroyedPennants;
+                count = 0;
+            } else {
+                amountOfDestroyedPennants = Math.min(amountOfDestroyedPennants + 1, maximalAmountOfDestroyedPennants);
+                count++;
+            }
+            pennantChain = newPennantChain;
+        }
+        tempBestPennantChains.add(pennantChain);
+    }
+    // - - - Destroy: Non-overlapping sets of positions, each containing both pennants of a minimal distance pair.
+    // The remaining positions of a set are sampled from the whole chain, so that a repair can exchange colors
+    // over long distances whilst the branch and bound stays small.
+    private List<int[]> selectDestroyedPositions(PennantChain pennantChain, int amountOfDestroyedPennants) {
+        Pennant[] chain = pennantChain.getChain();
+        List<Integer> rightIndicesOfMinimalDistancePairs = new ArrayList<>();
+        List<Integer> freePositions = new ArrayList<>();
+        for (int i = 0; i < chain.length; i++) {
+            if (chain[i].getLeftSameColorNeighbour() != null &&
+                    chain[i].getLeftSameColorNeighbourDistance() == pennantChain.getMinimalDistance()) {
+                rightIndicesOfMinimalDistancePairs.add(i);
+            }
+            freePositions.add(i);
+        }
+        Collections.shuffle(rightIndicesOfMinimalDistancePairs);
+        Collections.shuffle(freePositions);
+
+        boolean[] isDestroyed = new boolean[chain.length];
+        List<int[]> setsOfDestroyedPositions = new ArrayList<>();
+        for (int rightIndex : rightIndicesOfMinimalDistancePairs) {
+            int leftIndex = rightIndex - (chain[rightIndex].getLeftSameColorNeighbourDistance() + 1);
+            if (isDestroyed[leftIndex] || isDestroyed[rightIndex]) {
+                continue;
+            }
+            isDestroyed[leftIndex] = true;
+            isDestroyed[rightIndex] = true;
+            List<Integer> destroyedPositions = new ArrayList<>(List.of(leftIndex, rightIndex));
+            while (destroyedPositions.size() < amountOfDestroyedPennants && !freePositions.isEmpty()) {
+                int position = freePositions.remove(freePositions.size() - 1);
+                if (!isDestroyed[position]) {
+                    isDestroyed[position] = true;
+                    destroyedPositions.add(position);
+                }
+            }
+            setsOfDestroyedPositions.add(destroyedPositions.stream().mapToInt(Integer::intValue).sorted().toArray());
+        }
+        return setsOfDestroyedPositions;
+    }
+    // - - - Repair: The destroyed pennants are put back into their positions by branch and bound, whilst all
+    // other pennants stay in place. Returns a better chain, else a different chain of equal quality, else the
+    // given chain.
+    private PennantChain repairDestroyedPositions(PennantChain pennantChain, int[] destroyedPositions) {
+        Pennant[] chain = pennantChain.getChain();
+        PennantPile destroyedPennantPile = new PennantPile();
+        boolean[] isDestroyed = new boolean[chain.length];
+        for (int position : destroyedPositions) {
+            destroyedPennantPile.put(chain[position].getColor(),
+                    destroyedPennantPile.getOrDefault(chain[position].getColor(), 0) + 1);
+            isDestroyed[position] = true;
+        }
+        // Local incumbent instead of tempBestPennantChains, since sets are repaired in parallel
+        List<PennantChain> bestRepairedPennantChains = new ArrayList<>(List.of(pennantChain));
+        recRepairDestroyedPositions(new PennantChain(chain.length, false), destroyedPennantPile, pennantChain,
+                isDestroyed, bestRepairedPennantChains);
+        return bestRepairedPennantChains.get(0);
+    }
+    private void recRepairDestroyedPositions(PennantChain pennantChain, PennantPile pennantPile,
+                                             PennantChain originalPennantChain, boolean[] isDestroyed,
+                                             List<PennantChain> bestRepairedPennantChains) {
+        // Pennants that have not been destroyed are taken over from the original chain up to the next destroyed
+        // position. The given chain is a copy that belongs to this call, so it is extended in place.
+        Pennant[] originalChain = originalPennantChain.getChain();
+        while (pennantChain.getAmountOfPennantsOnChain() < originalChain.length &&
+                !isDestroyed[pennantChain.getAmountOfPennantsOnChain()]) {
+            pennantChain.addPennant(new Pennant(originalChain[pennantChain.getAmountOfPennantsOnChain()].getColor()));
+        }
+        // Cut branch: The (incomplete) chain is already worse than the original one. As soon as a better or a
+        // different but equal chain has been found, only strict improvements on that one are of interest.
+        int comparison = pennantChain.compareTo(bestRepairedPennantChains.get(0));
+        if (comparison < 0 || (comparison == 0 && bestRepairedPennantChains.get(0) != originalPennantChain)) {
+            return;
+        }
+        // Tree leaf: All destroyed positions are filled again
+        if (pennantChain.getAmountOfPennantsOnChain() == originalChain.length) {
+            boolean isRearranged = false;
+            for (int i = 0; i < originalChain.length; i++) {
+                if (!pennantChain.getChain()[i].equals(originalChain[i])) {
+                    isRearranged = true;
+                    break;
+                }
+            }
+            if (comparison > 0 || isRearranged) {
+                bestRepairedPennantChains.set(0, pennantChain);
+            }
+            return;
+        }
+        // Recursive call: As in recAddPennant, but the most promising chains are called first
+        PriorityQueue<PennantChain> queueOfRecPennantChains = new PriorityQueue<>(Collections.reverseOrder());
+        for (String pennantColor : pennantPile.keySet()) {
+            queueOfRecPennantChains.add(pennantChain.copy().addPennant(new Pennant(pennantColor)));
+        }
+        while (!queueOfRecPennantChains.isEmpty()) {
+            PennantChain recPennantChain = queueOfRecPennantChains.poll();
+            String lastPennantColor = recPennantChain.getChain()[recPennantChain.getAmountOfPennantsOnChain()-1].getColor();
+            PennantPile recPennantPile = pennantPile.copyWithoutPennant(lastPennantColor);
+            recRepairDestroyedPositions(recPennantChain, recPennantPile, originalPennantChain, isDestroyed,
+                    bestRepairedPennantChains);
+        }
+    }
+    // - - - Splicing: The destroyed positions of the repaired chain replace the same positions of the given chain
+    private PennantChain spliceDestroyedPositions(PennantChain pennantChain, PennantChain repairedPennantChain,
+                                                  int[] destroyedPositions) {
+        PennantChain splicedPennantChain = new PennantChain(pennantChain.getChain().length, false);
+        for (int i = 0; i < pennantChain.getChain().length; i++) {
+            Pennant[] sourceChain = Arrays.binarySearch(destroyedPositions, i) >= 0 ?
+                    repairedPennantChain.getChain() : pennantChain.getChain();
+            splicedPennantChain.addPennant(new Pennant(sourceChain[i].getColor()));
+        }
+        return splicedPennantChain;
+    }
 }
\ No newline at end of file
@@ -40,6 +40,12 @@ public class PennantChain implements Comparable<PennantChain>{
     public int getAmountOfPennantsOnChain() {
         return amountOfPennantsOnChain;
     }
+    public int getMinimalDistance() {
+        return minimalDistance;
+    }
+    public int getFrequency() {
+        return frequency;
+    }
     // - Others
     // - - Measurements
     public int measureMinDistanceToNextSameColorNeighbourToDirection(int indexPennant, int direction) {
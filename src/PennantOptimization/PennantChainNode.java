@@ -0,0 +1,114 @@
+package PennantOptimization;
+
+/**
+ * This class provides a compact node of a search tree over partial {@link PennantChain pennant chains}.
+ * <p>
+ *     Instead of an array of pennants, a node only stores the color index of its last pennant and a link to
+ *     its parent node, so that all nodes with the same beginning share that prefix. The whole chain can be
+ *     reconstructed by walking up the parents. Together with the quality of the partial chain a node takes about
+ *     32 bytes instead of a copied array of pennants. A frontier of these nodes can therefore be limited by its
+ *     node count; expanded ancestors kept alive by the parent links are not counted.
+ * </p>
+ * <p>
+ *     Besides the quality, measured as in {@link PennantChain}, a node carries a bound distance: the best minimal
+ *     distance that any completion of the partial chain can still reach. Nodes are compared by this
+ *     optimistic quality first, by their actual quality second and by their depth third, meaning, equally
+ *     promising but longer chains are better.
+ * </p>
+ */
+public class PennantChainNode implements Comparable<PennantChainNode> {
+    // Attributes
+    private final PennantChainNode parent;
+    private final short colorIndex;
+    private final short depth;
+    private final short minimalDistance;
+    private final short frequency;
+    private final short boundDistance;
+
+    // Constructors
+    public PennantChainNode(int length) {
+        parent = null;
+        colorIndex = -1;
+        depth = 0;
+        minimalDistance = (short) length;
+        frequency = 0;
+        boundDistance = (short) length;
+    }
+    public PennantChainNode(PennantChainNode parent, int colorIndex, int minimalDistance, int frequency, int boundDistance) {
+        this.parent = parent;
+        this.colorIndex = (short) colorIndex;
+        this.depth = (short) (parent.depth + 1);
+        this.minimalDistance = (short) minimalDistance;
+        this.frequency = (short) frequency;
+        this.boundDistance = (short) boundDistance;
+    }
+    // Methods
+    // - Getters
+    public PennantChainNode getParent() {
+        return parent;
+    }
+    public int getColorIndex() {
+        return colorIndex;
+    }
+    public int getDepth() {
+        return depth;
+    }
+    public int getMinimalDistance() {
+        return minimalDistance;
+    }
+    public int getFrequency() {
+        return frequency;
+    }
+    public int getBoundDistance() {
+        return boundDistance;
+    }
+    // Frequency can only be bounded if the bound distance is already reached, otherwise at least one pair remains
+    public int getBoundFrequency() {
+        return boundDistance == minimalDistance ? frequency : 1;
+    }
+    public int[] getColorIndices() {
+        int[] colorIndices = new int[depth];
+        for (PennantChainNode node = this; node.parent != null; node = node.parent) {
+            colorIndices[node.depth - 1] = node.colorIndex;
+        }
+        return colorIndices;
+    }
+    // - Others
+    public int compareBoundTo(PennantChain o) {
+        // 'this' is worse
+        if ((this.boundDistance < o.getMinimalDistance()) ||
+                ((this.boundDistance == o.getMinimalDistance()) && (this.getBoundFrequency() > o.getFrequency()))) {
+            return -1;
+        }
+        // 'o' is worse
+        else if ((this.boundDistance > o.getMinimalDistance()) ||
+                ((this.boundDistance == o.getMinimalDistance()) && (this.getBoundFrequency() < o.getFrequency()))) {
+            return 1;
+        }
+        // Equal
+        else {
+            return 0;
+        }
+    }
+    @Override public int compareTo(PennantChainNode o) {
+        // Optimistic quality
+        if (this.boundDistance != o.boundDistance) {
+            return this.boundDistance < o.boundDistance ? -1 : 1;
+        }
+        if (this.getBoundFrequency() != o.getBoundFrequency()) {
+            return this.getBoundFrequency() > o.getBoundFrequency() ? -1 : 1;
+        }
+        // Actual quality of the partial chain
+        if (this.minimalDistance != o.minimalDistance) {
+            return this.minimalDistance < o.minimalDistance ? -1 : 1;
+        }
+        if (this.frequency != o.frequency) {
+            return this.frequency > o.frequency ? -1 : 1;
+        }
+        // Depth
+        if (this.depth != o.depth) {
+            return this.depth < o.depth ? -1 : 1;
+        }
+        return 0;
+    }
+}
@@ -26,4 +26,13 @@ public class PennantPile extends HashMap<String, Integer> {
         copiedPennantPile.totalAmountOfPennants = this.totalAmountOfPennants;
         return copiedPennantPile;
     }
+    public PennantPile copyWithoutPennant(String pennantColor) {
+        // Copy of the pile with one pennant of that color less. If it was the last one, the color is removed.
+        PennantPile copiedPennantPile = copy();
+        copiedPennantPile.put(pennantColor, copiedPennantPile.get(pennantColor) - 1);
+        if (copiedPennantPile.get(pennantColor) <= 0) {
+            copiedPennantPile.remove(pennantColor);
+        }
+        return copiedPennantPile;
+    }
 }